@@ -20,12 +20,15 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -52,6 +55,11 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
      */
     protected static final String SOURCES_CLASSIFIER = "sources";
 
+    /**
+     * Prefix of the output file lines which describe incomplete results.
+     */
+    protected static final String WARNING_PREFIX = "[WARNING] ";
+
     @Parameter(defaultValue = "${session}", readonly = true, required = true)
     protected MavenSession session;
 
@@ -100,6 +108,51 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
     @Parameter(property = "attribution.serviceTimeoutMinutes", defaultValue = "60")
     protected int serviceTimeoutMinutes;
 
+    /**
+     * Maximal time spent on reading and searching sources of a single artifact (GAV). Time the sources wait for a free thread
+     * is not counted. When exceeded, the rest of the artifact is skipped and a warning is written to the output file.
+     * Non-positive value disables the limit.
+     */
+    @Parameter(property = "attribution.artifactTimeoutSeconds", defaultValue = "600")
+    protected long artifactTimeoutSeconds;
+
+    /**
+     * Maximal time spent on searching the copyright notices in a single source file. When exceeded, the rest of the file is
+     * skipped and a warning is written to the output file. Non-positive value disables the limit.
+     */
+    @Parameter(property = "attribution.fileTimeoutSeconds", defaultValue = "60")
+    protected long fileTimeoutSeconds;
+
+    /**
+     * Maximal number of source bytes read from a single artifact (GAV). When exceeded, the remaining source files are skipped
+     * and a warning is written to the output file. Non-positive value disables the limit.
+     */
+    @Parameter(property = "attribution.artifactSizeLimitBytes", defaultValue = "268435456")
+    protected long artifactSizeLimitBytes;
+
+    /**
+     * Maximal number of bytes read from a single source file. Longer files are truncated and a warning is written to the
+     * output file. Non-positive value disables the limit.
+     */
+    @Parameter(property = "attribution.fileSizeLimitBytes", defaultValue = "10485760")
+    protected long fileSizeLimitBytes;
+
+    /**
+     * When enabled, each distinct attribution is written once to the output file, followed by the list of GAVs which carry it.
+     * Warnings about incomplete results are listed at the end as {@code [WARNING] <gav>: <message>} lines. By default,
+     * attributions are listed per GAV.
+     */
+    @Parameter(property = "attribution.groupByAttribution", defaultValue = "false")
+    protected boolean groupByAttribution;
+
+    /**
+     * When enabled, attributions which only differ in the years (e.g. {@code Copyright 2004-2011 QOS.ch} and
+     * {@code Copyright 2008-2015 QOS.ch}) are merged into a single one ({@code Copyright 2004-2015 QOS.ch}). Only overlapping
+     * and adjacent year ranges are joined, others are listed. Only numbers from 1900 to 2099 are considered years.
+     */
+    @Parameter(property = "attribution.mergeYears", defaultValue = "false")
+    protected boolean mergeYears;
+
     /**
      * Specifies the destination attribution file.
      */
@@ -174,7 +227,7 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
             throw new MojoFailureException("Source files processing has timed out", e);
         }
 
-        if (context.foundAttribution.isEmpty()) {
+        if (context.foundAttribution.isEmpty() && context.incompleteAttribution.isEmpty()) {
             getLog().info("No attribution found in the dependencies. The output file will not be generated.");
         } else {
             generateResults(context);
@@ -183,7 +236,9 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
 
     private void prepareExclusionPatterns(final AttributionContext context) throws MojoExecutionException {
         if (exclusionPatterns != null && !exclusionPatterns.isEmpty()) {
-            context.exclusionPatterns.addAll(exclusionPatterns);
+            for (String patternStr : exclusionPatterns) {
+                addExclusionPattern(context, patternStr);
+            }
         }
 
         if (exclusionPatternsFile != null && exclusionPatternsFile.isFile()) {
@@ -193,7 +248,7 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
                 String line;
                 while (null != (line = reader.readLine())) {
                     if (!line.isEmpty()) {
-                        context.exclusionPatterns.add(line);
+                        addExclusionPattern(context, line);
                         getLog().debug("Added exclusionPattern '" + line + "'");
                     }
                 }
@@ -204,6 +259,14 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
         }
     }
 
+    private void addExclusionPattern(final AttributionContext context, String patternStr) throws MojoExecutionException {
+        try {
+            context.exclusionPatterns.add(Pattern.compile(patternStr));
+        } catch (PatternSyntaxException e) {
+            throw new MojoExecutionException("Invalid exclusion pattern '" + patternStr + "'", e);
+        }
+    }
+
     private void generateResults(final AttributionContext context) throws MojoExecutionException {
         File parentDir = outputFile.getParentFile();
         if (parentDir != null && !parentDir.exists()) {
@@ -211,21 +274,10 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
         }
         try (PrintWriter pw = new PrintWriter(
                 new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(outputFile)), StandardCharsets.UTF_8))) {
-            for (Map.Entry<String, Set<String>> gavEntry : context.foundAttribution.entrySet()) {
-                Set<String> attributionSet = gavEntry.getValue();
-                String gav = gavEntry.getKey();
-                if (!attributionSet.isEmpty()) {
-                    pw.println(gav);
-                    getLog().debug("Adding " + attributionSet.size() + " attribution(s) for " + gav);
-                    for (String attribution : attributionSet) {
-                        String attributionLine = "\t" + attribution;
-                        pw.println(attributionLine);
-                        getLog().debug(attributionLine);
-                    }
-                    pw.println();
-                } else {
-                    getLog().debug("Skipping " + gav + " as no attribution was found there.");
-                }
+            if (groupByAttribution) {
+                writeByAttribution(pw, context);
+            } else {
+                writeByGav(pw, context);
             }
         } catch (FileNotFoundException e) {
             throw new MojoExecutionException("Unable to write to the outputFile " + outputFile, e);
@@ -233,19 +285,93 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
         getLog().info("Attribution file was generated: " + outputFile.getAbsolutePath());
     }
 
+    private void writeByGav(PrintWriter pw, AttributionContext context) {
+        Set<String> gavs = context.foundAttribution.getGavs();
+        gavs.addAll(context.incompleteAttribution.keySet());
+        for (String gav : gavs) {
+            Set<String> attributionSet = context.foundAttribution.getAttributions(gav, mergeYears);
+            Set<String> warningSet = context.incompleteAttribution.getOrDefault(gav, Collections.emptySet());
+            if (!attributionSet.isEmpty() || !warningSet.isEmpty()) {
+                pw.println(gav);
+                getLog().debug("Adding " + attributionSet.size() + " attribution(s) for " + gav);
+                for (String attribution : attributionSet) {
+                    String attributionLine = "\t" + attribution;
+                    pw.println(attributionLine);
+                    getLog().debug(attributionLine);
+                }
+                for (String warning : warningSet) {
+                    pw.println("\t" + WARNING_PREFIX + warning);
+                }
+                pw.println();
+            } else {
+                getLog().debug("Skipping " + gav + " as no attribution was found there.");
+            }
+        }
+    }
+
+    private void writeByAttribution(PrintWriter pw, AttributionContext context) {
+        for (Map.Entry<String, SortedSet<String>> entry : context.foundAttribution.getGavsByAttribution(mergeYears)
+                .entrySet()) {
+            String attribution = entry.getKey();
+            pw.println(attribution);
+            getLog().debug("Adding " + entry.getValue().size() + " GAV(s) for " + attribution);
+            for (String gav : entry.getValue()) {
+                pw.println("\t" + gav);
+            }
+            pw.println();
+        }
+        for (Map.Entry<String, Set<String>> entry : context.incompleteAttribution.entrySet()) {
+            for (String warning : entry.getValue()) {
+                pw.println(WARNING_PREFIX + entry.getKey() + ": " + warning);
+            }
+        }
+    }
+
     protected abstract Map<String, File> resolveSourceJars();
 
     private void readJar(String gav, File jar, AttributionContext context) {
         if (!jar.isFile()) {
             getLog().info("Skipping the resolved source path as it's not a file: " + jar);
         }
+        long bytesRead = 0;
         try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(new FileInputStream(jar)))) {
             ZipEntry zipEntry;
             while (null != (zipEntry = zip.getNextEntry())) {
                 String srcName = zipEntry.getName();
                 if (!zipEntry.isDirectory() && acceptFile(srcName)) {
+                    if (remainingArtifactNanos(context, gav) <= 0) {
+                        addArtifactTimeout(context, gav);
+                        return;
+                    }
+                    long limit = fileSizeLimitBytes;
+                    boolean artifactLimitApplied = false;
+                    if (artifactSizeLimitBytes > 0) {
+                        long remaining = artifactSizeLimitBytes - bytesRead;
+                        if (remaining <= 0) {
+                            addIncomplete(context, gav, "Size limit of " + artifactSizeLimitBytes
+                                    + " bytes reached, remaining files were skipped (first skipped: " + srcName + ")");
+                            return;
+                        }
+                        if (limit <= 0 || remaining < limit) {
+                            limit = remaining;
+                            artifactLimitApplied = true;
+                        }
+                    }
                     try {
-                        context.srcQueue.put(new SrcFile(gav, srcName, toByteArray(zip)));
+                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                        long start = System.nanoTime();
+                        boolean truncated = copy(zip, baos, limit);
+                        addArtifactElapsed(context, gav, System.nanoTime() - start);
+                        bytesRead += baos.size();
+                        context.srcQueue.put(new SrcFile(gav, srcName, baos.toByteArray()));
+                        if (truncated && artifactLimitApplied) {
+                            addIncomplete(context, gav, "Size limit of " + artifactSizeLimitBytes + " bytes reached, source file "
+                                    + srcName + " was truncated and remaining files were skipped");
+                            return;
+                        } else if (truncated) {
+                            addIncomplete(context, gav,
+                                    "Source file " + srcName + " was truncated to " + fileSizeLimitBytes + " bytes");
+                        }
                     } catch (InterruptedException e) {
                         getLog().warn("Putting source file to queue was interrupted", e);
                     } catch (IOException e) {
@@ -275,25 +401,46 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
         while (context.producersRunning.get() || !context.srcQueue.isEmpty()) {
             try {
                 SrcFile srcFile = context.srcQueue.poll(1, TimeUnit.SECONDS);
-                getLog().debug("Processing " + srcFile.getSourceName() + " from " + srcFile.getGav());
+                if (srcFile == null) {
+                    continue;
+                }
+                String gav = srcFile.getGav();
+                long artifactBudget = remainingArtifactNanos(context, gav);
+                if (artifactBudget <= 0) {
+                    addArtifactTimeout(context, gav);
+                    continue;
+                }
+                long fileBudget = fileTimeoutSeconds > 0 ? TimeUnit.SECONDS.toNanos(fileTimeoutSeconds) : Long.MAX_VALUE;
+                boolean artifactBudgetFirst = artifactBudget < fileBudget;
+                long start = System.nanoTime();
+                long deadline = DeadlineCharSequence.deadlineAfterNanos(Math.min(artifactBudget, fileBudget));
+                getLog().debug("Processing " + srcFile.getSourceName() + " from " + gav);
                 try (BufferedReader reader = new BufferedReader(
                         new InputStreamReader(new ByteArrayInputStream(srcFile.getBytes()), StandardCharsets.UTF_8))) {
                     String line;
                     while (null != (line = reader.readLine())) {
-                        Matcher m = pattern.matcher(line);
+                        DeadlineCharSequence.checkDeadline(deadline);
+                        Matcher m = pattern.matcher(new DeadlineCharSequence(line, deadline));
                         if (m.find()) {
                             String copyrightStr = m.group(group);
-                            if (isExcluded(context, copyrightStr)) {
+                            if (isExcluded(context, copyrightStr, deadline)) {
                                 getLog().debug("Excluded: " + copyrightStr);
                                 continue;
                             }
-                            Set<String> hitSet = context.foundAttribution.computeIfAbsent(srcFile.getGav(),
-                                    s -> Collections.newSetFromMap(new ConcurrentSkipListMap<>()));
-                            if (hitSet.add(copyrightStr)) {
+                            if (context.foundAttribution.add(gav, copyrightStr)) {
                                 getLog().debug("Found: " + copyrightStr);
                             }
                         }
                     }
+                } catch (DeadlineCharSequence.DeadlineExceededException e) {
+                    if (artifactBudgetFirst) {
+                        addArtifactTimeout(context, gav);
+                    } else {
+                        addIncomplete(context, gav, "Searching source file " + srcFile.getSourceName() + " timed out after "
+                                + fileTimeoutSeconds + " seconds, the rest of the file was skipped");
+                    }
+                } finally {
+                    addArtifactElapsed(context, gav, System.nanoTime() - start);
                 }
             } catch (InterruptedException e) {
                 getLog().debug(e);
@@ -303,25 +450,58 @@ public abstract class AbstractAttributionMojo extends AbstractMojo {
         }
     }
 
-    private boolean isExcluded(AttributionContext context, String copyrightStr) {
-        for (String patternStr : context.exclusionPatterns) {
-            Pattern p = Pattern.compile(patternStr);
-            if (p.matcher(copyrightStr).find()) {
+    /**
+     * Returns the remaining time budget of the given GAV. Only the time really spent on reading and searching the GAV sources
+     * is counted, waiting in the queue is not.
+     */
+    private long remainingArtifactNanos(AttributionContext context, String gav) {
+        if (artifactTimeoutSeconds <= 0) {
+            return Long.MAX_VALUE;
+        }
+        AtomicLong elapsed = context.artifactElapsedNanos.get(gav);
+        return TimeUnit.SECONDS.toNanos(artifactTimeoutSeconds) - (elapsed == null ? 0 : elapsed.get());
+    }
+
+    private void addArtifactElapsed(AttributionContext context, String gav, long nanos) {
+        context.artifactElapsedNanos.computeIfAbsent(gav, s -> new AtomicLong()).addAndGet(nanos);
+    }
+
+    private void addArtifactTimeout(AttributionContext context, String gav) {
+        addIncomplete(context, gav,
+                "Time budget of " + artifactTimeoutSeconds + " seconds exceeded, remaining files were skipped");
+    }
+
+    private void addIncomplete(AttributionContext context, String gav, String warning) {
+        Set<String> warningSet = context.incompleteAttribution.computeIfAbsent(gav,
+                s -> Collections.newSetFromMap(new ConcurrentSkipListMap<>()));
+        if (warningSet.add(warning)) {
+            getLog().warn(gav + ": " + warning);
+        }
+    }
+
+    private boolean isExcluded(AttributionContext context, String copyrightStr, long deadline) {
+        for (Pattern p : context.exclusionPatterns) {
+            if (p.matcher(new DeadlineCharSequence(copyrightStr, deadline)).find()) {
                 return true;
             }
         }
         return false;
     }
 
-    private static byte[] toByteArray(InputStream in) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = in.read(buffer)) != -1) {
-                baos.write(buffer, 0, len);
-            }
-            return baos.toByteArray();
+    /**
+     * Copies at most {@code limit} bytes (non-positive means unlimited) from the input to the output stream.
+     *
+     * @return {@code true} when the input was truncated, i.e. there were more bytes available than the limit allowed
+     */
+    private static boolean copy(InputStream in, ByteArrayOutputStream out, long limit) throws IOException {
+        byte[] buffer = new byte[1024];
+        long remaining = limit > 0 ? limit : Long.MAX_VALUE;
+        int len;
+        while (remaining > 0 && (len = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+            out.write(buffer, 0, len);
+            remaining -= len;
         }
+        return remaining == 0 && in.read() != -1;
     }
 
     protected File resolve(Artifact artifact) {
@@ -1,13 +1,16 @@
 package com.hazelcast.maven.attribution;
 
-import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 /**
  * Context object of the Attribution generator. Its shared by all producers and consumers. Data structures used here should be
@@ -16,6 +19,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 class AttributionContext {
     final BlockingQueue<SrcFile> srcQueue = new LinkedBlockingQueue<>(1024);
     final AtomicBoolean producersRunning = new AtomicBoolean(true);
-    final ConcurrentMap<String, Set<String>> foundAttribution = new ConcurrentSkipListMap<>();
-    final Set<String> exclusionPatterns = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    final AttributionStore foundAttribution = new AttributionStore();
+    final List<Pattern> exclusionPatterns = new CopyOnWriteArrayList<>();
+    /**
+     * Per-GAV time (in nanoseconds) spent on reading and searching the sources.
+     */
+    final ConcurrentMap<String, AtomicLong> artifactElapsedNanos = new ConcurrentHashMap<>();
+    /**
+     * Per-GAV warnings about skipped or truncated content when a budget was exceeded.
+     */
+    final ConcurrentMap<String, Set<String>> incompleteAttribution = new ConcurrentSkipListMap<>();
 }
@@ -0,0 +1,209 @@
+package com.hazelcast.maven.attribution;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Thread safe store of the found attributions. Attribution lines are normalized and interned in a shared dictionary, so the
+ * same notice found in many GAVs is held only once and each GAV only references dictionary IDs.
+ */
+class AttributionStore {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_COMMENT_END = Pattern.compile("(\\s*(\\*/|-->))+$");
+    private static final Pattern YEARS = Pattern.compile("\\b(19|20)\\d{2}(\\s*[-,]\\s*(19|20)\\d{2})*\\b");
+    private static final Pattern YEAR_RANGE = Pattern.compile("((?:19|20)\\d{2})(\\s*-\\s*((?:19|20)\\d{2}))?");
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private final ConcurrentMap<String, BitSet> gavAttributions = new ConcurrentSkipListMap<>();
+
+    /**
+     * Normalizes the given attribution line and adds it to the given GAV.
+     *
+     * @return {@code true} if the attribution was not yet present for the GAV
+     */
+    boolean add(String gav, String attribution) {
+        String normalized = normalize(attribution);
+        if (normalized.isEmpty()) {
+            return false;
+        }
+        int id = intern(normalized);
+        BitSet idSet = gavAttributions.computeIfAbsent(gav, s -> new BitSet());
+        synchronized (idSet) {
+            if (idSet.get(id)) {
+                return false;
+            }
+            idSet.set(id);
+            return true;
+        }
+    }
+
+    boolean isEmpty() {
+        return gavAttributions.isEmpty();
+    }
+
+    /**
+     * Returns sorted attributions of the given GAV. When {@code mergeYears} is set, notices which only differ in years are
+     * merged to a single notice.
+     *
+     * @see #mergeYearRanges(Collection)
+     */
+    SortedSet<String> getAttributions(String gav, boolean mergeYears) {
+        BitSet idSet = gavAttributions.get(gav);
+        if (idSet == null) {
+            return new TreeSet<>();
+        }
+        List<String> notices = new ArrayList<>();
+        synchronized (idSet) {
+            for (int id = idSet.nextSetBit(0); id >= 0; id = idSet.nextSetBit(id + 1)) {
+                notices.add(lookup(id));
+            }
+        }
+        return mergeYears ? new TreeSet<>(mergeYearRanges(notices).keySet()) : new TreeSet<>(notices);
+    }
+
+    /**
+     * Returns GAVs which contain at least one attribution.
+     */
+    SortedSet<String> getGavs() {
+        return new TreeSet<>(gavAttributions.keySet());
+    }
+
+    /**
+     * Returns the distinct attributions mapped to GAVs which carry them.
+     *
+     * @see #getAttributions(String, boolean)
+     */
+    SortedMap<String, SortedSet<String>> getGavsByAttribution(boolean mergeYears) {
+        Map<String, SortedSet<String>> gavsByNotice = new LinkedHashMap<>();
+        for (Map.Entry<String, BitSet> entry : gavAttributions.entrySet()) {
+            BitSet idSet = entry.getValue();
+            synchronized (idSet) {
+                for (int id = idSet.nextSetBit(0); id >= 0; id = idSet.nextSetBit(id + 1)) {
+                    gavsByNotice.computeIfAbsent(lookup(id), s -> new TreeSet<>()).add(entry.getKey());
+                }
+            }
+        }
+        if (!mergeYears) {
+            return new TreeMap<>(gavsByNotice);
+        }
+        SortedMap<String, SortedSet<String>> result = new TreeMap<>();
+        for (Map.Entry<String, List<String>> merged : mergeYearRanges(gavsByNotice.keySet()).entrySet()) {
+            SortedSet<String> gavs = new TreeSet<>();
+            for (String notice : merged.getValue()) {
+                gavs.addAll(gavsByNotice.get(notice));
+            }
+            result.put(merged.getKey(), gavs);
+        }
+        return result;
+    }
+
+    private int intern(String notice) {
+        Integer id = ids.get(notice);
+        if (id != null) {
+            return id;
+        }
+        synchronized (dictionary) {
+            return ids.computeIfAbsent(notice, s -> {
+                dictionary.add(s);
+                return dictionary.size() - 1;
+            });
+        }
+    }
+
+    private String lookup(int id) {
+        synchronized (dictionary) {
+            return dictionary.get(id);
+        }
+    }
+
+    /**
+     * Collapses whitespace and removes trailing comment terminators (e.g. {@code *}{@code /}) from the attribution line.
+     */
+    static String normalize(String attribution) {
+        String normalized = TRAILING_COMMENT_END.matcher(attribution).replaceFirst("");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Groups notices which differ only in the (first) list of years and maps the merged notice to the original ones. Only
+     * numbers from 1900 to 2099 are considered years, so e.g. street numbers are left untouched. A notice without other group
+     * members is kept as is. Otherwise, year ranges of the group members which overlap or follow each other are joined and
+     * the others are listed (e.g. {@code 1998-2001, 2019-2020}), so no year is added which wasn't in the original notices.
+     */
+    static Map<String, List<String>> mergeYearRanges(Collection<String> notices) {
+        Map<String, List<String>> noticesByTemplate = new LinkedHashMap<>();
+        Map<String, List<int[]>> rangesByTemplate = new LinkedHashMap<>();
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        for (String notice : notices) {
+            Matcher m = YEARS.matcher(notice);
+            if (!m.find()) {
+                result.computeIfAbsent(notice, s -> new ArrayList<>()).add(notice);
+                continue;
+            }
+            // the NUL character marks the years position, it's not expected in copyright lines
+            String template = notice.substring(0, m.start()) + '\0' + notice.substring(m.end());
+            noticesByTemplate.computeIfAbsent(template, s -> new ArrayList<>()).add(notice);
+            List<int[]> ranges = rangesByTemplate.computeIfAbsent(template, s -> new ArrayList<>());
+            Matcher rangeMatcher = YEAR_RANGE.matcher(m.group());
+            while (rangeMatcher.find()) {
+                int from = Integer.parseInt(rangeMatcher.group(1));
+                int to = rangeMatcher.group(3) != null ? Integer.parseInt(rangeMatcher.group(3)) : from;
+                ranges.add(new int[] {Math.min(from, to), Math.max(from, to)});
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : noticesByTemplate.entrySet()) {
+            List<String> group = entry.getValue();
+            String merged = group.size() == 1 ? group.get(0)
+                    : entry.getKey().replace("\0", formatYears(rangesByTemplate.get(entry.getKey())));
+            result.computeIfAbsent(merged, s -> new ArrayList<>()).addAll(group);
+        }
+        return result;
+    }
+
+    /**
+     * Joins overlapping and adjacent year ranges and formats them as a comma separated list.
+     */
+    private static String formatYears(List<int[]> ranges) {
+        ranges.sort((r1, r2) -> Integer.compare(r1[0], r2[0]));
+        StringBuilder sb = new StringBuilder();
+        int[] current = null;
+        for (int[] range : ranges) {
+            if (current != null && range[0] <= current[1] + 1) {
+                current[1] = Math.max(current[1], range[1]);
+                continue;
+            }
+            appendRange(sb, current);
+            current = new int[] {range[0], range[1]};
+        }
+        appendRange(sb, current);
+        return sb.toString();
+    }
+
+    private static void appendRange(StringBuilder sb, int[] range) {
+        if (range == null) {
+            return;
+        }
+        if (sb.length() > 0) {
+            sb.append(", ");
+        }
+        sb.append(range[0]);
+        if (range[1] != range[0]) {
+            sb.append('-').append(range[1]);
+        }
+    }
+}
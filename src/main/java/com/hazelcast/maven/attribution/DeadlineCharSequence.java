@@ -0,0 +1,81 @@
+package com.hazelcast.maven.attribution;
+
+/**
+ * {@link CharSequence} wrapper which fails with {@link DeadlineExceededException} when it's accessed after the given deadline.
+ * The regular expression engine reads the input through {@link #charAt(int)}, so wrapping the input makes even a
+ * catastrophically backtracking pattern evaluation interruptible.
+ */
+class DeadlineCharSequence implements CharSequence {
+
+    /**
+     * Deadline value used when no time budget is configured.
+     */
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * How many {@link #charAt(int)} calls are made between two deadline checks.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final CharSequence delegate;
+    private final long deadlineNanos;
+    private int accessCounter;
+
+    DeadlineCharSequence(CharSequence delegate, long deadlineNanos) {
+        this.delegate = delegate;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (++accessCounter >= CHECK_INTERVAL) {
+            accessCounter = 0;
+            checkDeadline(deadlineNanos);
+        }
+        return delegate.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return delegate.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new DeadlineCharSequence(delegate.subSequence(start, end), deadlineNanos);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} based deadline for the given budget. {@link Long#MAX_VALUE} budget means no
+     * deadline.
+     */
+    static long deadlineAfterNanos(long nanos) {
+        return nanos == Long.MAX_VALUE ? NO_DEADLINE : System.nanoTime() + nanos;
+    }
+
+    static boolean isExpired(long deadlineNanos) {
+        return deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos > 0;
+    }
+
+    static void checkDeadline(long deadlineNanos) {
+        if (isExpired(deadlineNanos)) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    /**
+     * Signals that the time budget was exhausted.
+     */
+    static class DeadlineExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        DeadlineExceededException() {
+            super("Time budget exceeded", null, false, false);
+        }
+    }
+}
@@ -2,17 +2,22 @@ package com.hazelcast.maven.attribution;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -24,16 +29,22 @@ public class AbstractAttributionMojoTest {
 
     private static final File TEST_SOURCE_JAR = new File("target/unittestdata.jar");
 
+    private static final String TEST_GAV = AbstractAttributionMojo.gavKey("com.hazelcast.test", "attribution-test-artifact",
+            "4.92.13");
+    private static final String TEST_GAV2 = AbstractAttributionMojo.gavKey("com.hazelcast.test", "attribution-test-artifact",
+            "5.0");
+
     AbstractAttributionMojo mojo;
+    Map<String, File> srcJars;
 
     @Before
     public void setUp() {
+        srcJars = new HashMap<>();
+        srcJars.put(TEST_GAV, TEST_SOURCE_JAR);
         mojo = new AbstractAttributionMojo() {
 
             @Override
             protected Map<String, File> resolveSourceJars() {
-                HashMap<String, File> srcJars = new HashMap<>();
-                srcJars.put(gavKey("com.hazelcast.test", "attribution-test-artifact", "4.92.13"), TEST_SOURCE_JAR);
                 return srcJars;
             }
         };
@@ -105,4 +116,164 @@ public class AbstractAttributionMojoTest {
 
         assertContentUsingExclusions();
     }
+
+    @Test
+    public void testFileSizeLimit() throws MojoExecutionException, MojoFailureException, IOException {
+        mojo.fileSizeLimitBytes = 64;
+        mojo.outputFile = new File("target/unittest/attribution-file-size-limit.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals("com.hazelcast.test:attribution-test-artifact:4.92.13", lines.get(0));
+        assertFalse(lines.contains("\tCopyright 2011-2020 Darth Vader"));
+        assertTrue(lines.contains("\t[WARNING] Source file TestFile1.java was truncated to 64 bytes"));
+    }
+
+    @Test
+    public void testArtifactSizeLimit() throws MojoExecutionException, MojoFailureException, IOException {
+        mojo.artifactSizeLimitBytes = 1;
+        mojo.outputFile = new File("target/unittest/attribution-artifact-size-limit.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("com.hazelcast.test:attribution-test-artifact:4.92.13", lines.get(0));
+        assertTrue(lines.get(1).startsWith("\t[WARNING] Size limit of 1 bytes reached"));
+        assertEquals("", lines.get(2));
+    }
+
+    @Test(timeout = 60_000)
+    public void testFileTimeout() throws MojoExecutionException, MojoFailureException, IOException {
+        mojo.copyrightPattern = "^((a+)*)+b$";
+        mojo.fileTimeoutSeconds = 1;
+        mojo.outputFile = new File("target/unittest/attribution-file-timeout.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("com.hazelcast.test:attribution-test-artifact:4.92.13", lines.get(0));
+        assertEquals(
+                "\t[WARNING] Searching source file TestFile3.java timed out after 1 seconds, the rest of the file was skipped",
+                lines.get(1));
+        assertEquals("", lines.get(2));
+    }
+
+    @Test(timeout = 60_000)
+    public void testArtifactTimeout() throws MojoExecutionException, MojoFailureException, IOException {
+        mojo.copyrightPattern = "^((a+)*)+b$";
+        mojo.artifactTimeoutSeconds = 1;
+        mojo.outputFile = new File("target/unittest/attribution-artifact-timeout.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("com.hazelcast.test:attribution-test-artifact:4.92.13", lines.get(0));
+        assertEquals("\t[WARNING] Time budget of 1 seconds exceeded, remaining files were skipped", lines.get(1));
+        assertEquals("", lines.get(2));
+    }
+
+    @Test(timeout = 60_000)
+    public void testExclusionPatternTimeout() throws MojoExecutionException, MojoFailureException, IOException {
+        mojo.copyrightPattern = "a+!";
+        mojo.exclusionPatterns = new ArrayList<String>();
+        mojo.exclusionPatterns.add("^((a+)*)+b$");
+        mojo.fileTimeoutSeconds = 1;
+        mojo.outputFile = new File("target/unittest/attribution-exclusion-timeout.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(TEST_GAV,
+                "\t[WARNING] Searching source file TestFile3.java timed out after 1 seconds, the rest of the file was skipped",
+                ""), lines);
+    }
+
+    @Test(timeout = 60_000)
+    public void testSlowArtifactDoesNotTimeOutOthers() throws MojoExecutionException, MojoFailureException, IOException {
+        String slowGav = AbstractAttributionMojo.gavKey("com.hazelcast.test", "slow-artifact", "1.0");
+        String fastGav = AbstractAttributionMojo.gavKey("com.hazelcast.test", "fast-artifact", "1.0");
+        srcJars.clear();
+        // more files than the queue capacity, so readers of both artifacts wait for the slow consumers
+        srcJars.put(slowGav, createJar("slow-artifact.jar", 1100, "aaaaaaaaaaaaaaaa!"));
+        srcJars.put(fastGav, createJar("fast-artifact.jar", 1100, "Copyright 2021 Fast Artifact"));
+        mojo.copyrightPattern = "^((a+)*)+b$|^Copyright .*$";
+        mojo.parallelism = 2;
+        mojo.artifactTimeoutSeconds = 3;
+        mojo.outputFile = new File("target/unittest/attribution-slow-artifact.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(fastGav, "\tCopyright 2021 Fast Artifact", "", slowGav,
+                "\t[WARNING] Time budget of 3 seconds exceeded, remaining files were skipped", ""), lines);
+    }
+
+    private static File createJar(String name, int fileCount, String content) throws IOException {
+        File jar = new File("target/unittest", name);
+        jar.getParentFile().mkdirs();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (int i = 0; i < fileCount; i++) {
+                zip.putNextEntry(new ZipEntry("File" + i + ".java"));
+                zip.write(content.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    public void testGroupByAttribution() throws MojoExecutionException, MojoFailureException, IOException {
+        srcJars.put(TEST_GAV2, TEST_SOURCE_JAR);
+        mojo.groupByAttribution = true;
+        mojo.outputFile = new File("target/unittest/attribution-group-by-attribution.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        List<String> notices = assertNoticesCarriedByAllGavs(lines, 0, lines.size());
+        assertTrue(notices.contains("(C) Copyright 1997-2013, The True Robocop"));
+        assertTrue(notices.contains("Copyright 2011-2020 Darth Vader"));
+    }
+
+    @Test
+    public void testGroupByAttributionWithWarnings() throws MojoExecutionException, MojoFailureException, IOException {
+        srcJars.put(TEST_GAV2, TEST_SOURCE_JAR);
+        mojo.groupByAttribution = true;
+        mojo.fileSizeLimitBytes = 700;
+        mojo.outputFile = new File("target/unittest/attribution-group-by-attribution-warnings.txt");
+        mojo.serviceTimeoutMinutes = 5;
+        mojo.execute();
+
+        List<String> lines = Files.readAllLines(mojo.outputFile.toPath(), StandardCharsets.UTF_8);
+        int firstWarning = 0;
+        while (firstWarning < lines.size() && !lines.get(firstWarning).startsWith("[WARNING] ")) {
+            firstWarning++;
+        }
+        List<String> notices = assertNoticesCarriedByAllGavs(lines, 0, firstWarning);
+        assertTrue(notices.contains("Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved."));
+        assertEquals(Arrays.asList("[WARNING] " + TEST_GAV + ": Source file TestFile2.JAVA was truncated to 700 bytes",
+                "[WARNING] " + TEST_GAV2 + ": Source file TestFile2.JAVA was truncated to 700 bytes"),
+                lines.subList(firstWarning, lines.size()));
+    }
+
+    /**
+     * Asserts the given range of the grouped output consists of notice blocks and each notice is carried by all the test GAVs.
+     *
+     * @return notices found in the given range
+     */
+    private List<String> assertNoticesCarriedByAllGavs(List<String> lines, int from, int to) {
+        List<String> notices = new ArrayList<>();
+        for (int i = from; i < to; i += 4) {
+            String notice = lines.get(i);
+            assertFalse(notice.isEmpty() || notice.startsWith("\t"));
+            notices.add(notice);
+            assertEquals(Arrays.asList("\t" + TEST_GAV, "\t" + TEST_GAV2, ""), lines.subList(i + 1, i + 4));
+        }
+        assertFalse(notices.isEmpty());
+        return notices;
+    }
 }
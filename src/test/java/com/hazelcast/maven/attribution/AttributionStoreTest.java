@@ -0,0 +1,95 @@
+package com.hazelcast.maven.attribution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class AttributionStoreTest {
+
+    private static final String GAV_A = "com.hazelcast.test:a:1.0";
+    private static final String GAV_B = "com.hazelcast.test:b:1.0";
+
+    @Test
+    public void testNormalize() {
+        assertEquals("Copyright 2011 Darth Vader", AttributionStore.normalize("Copyright  2011\tDarth Vader */"));
+        assertEquals("(c) 2000 Star Macrosystems", AttributionStore.normalize("(c) 2000 Star Macrosystems -->"));
+        assertEquals("(c) { // what a nice condition", AttributionStore.normalize("(c) { // what a nice condition"));
+    }
+
+    @Test
+    public void testAddDeduplicatesNormalizedAttributions() {
+        AttributionStore store = new AttributionStore();
+        assertTrue(store.add(GAV_A, "Copyright 2011 Darth Vader"));
+        assertFalse(store.add(GAV_A, "Copyright  2011 Darth Vader */"));
+        assertTrue(store.add(GAV_B, "Copyright 2011 Darth Vader"));
+        assertFalse(store.add(GAV_B, " */"));
+
+        assertEquals(new TreeSet<>(Arrays.asList(GAV_A, GAV_B)), store.getGavs());
+        assertEquals(new TreeSet<>(Arrays.asList("Copyright 2011 Darth Vader")), store.getAttributions(GAV_A, false));
+        SortedMap<String, SortedSet<String>> byAttribution = store.getGavsByAttribution(false);
+        assertEquals(1, byAttribution.size());
+        assertEquals(new TreeSet<>(Arrays.asList(GAV_A, GAV_B)), byAttribution.get("Copyright 2011 Darth Vader"));
+    }
+
+    @Test
+    public void testMergeYears() {
+        AttributionStore store = new AttributionStore();
+        store.add(GAV_A, "Copyright (c) 2004-2011 QOS.ch");
+        store.add(GAV_A, "Copyright (c) 2008-2015 QOS.ch");
+        store.add(GAV_B, "Copyright (c) 2016 QOS.ch");
+        store.add(GAV_B, "Copyright (c) 2011, Pat a Mat");
+
+        assertEquals(new TreeSet<>(Arrays.asList("Copyright (c) 2004-2011 QOS.ch", "Copyright (c) 2008-2015 QOS.ch")),
+                store.getAttributions(GAV_A, false));
+        assertEquals(new TreeSet<>(Arrays.asList("Copyright (c) 2004-2015 QOS.ch")), store.getAttributions(GAV_A, true));
+
+        SortedMap<String, SortedSet<String>> byAttribution = store.getGavsByAttribution(true);
+        assertEquals(2, byAttribution.size());
+        assertEquals(new TreeSet<>(Arrays.asList(GAV_A, GAV_B)), byAttribution.get("Copyright (c) 2004-2016 QOS.ch"));
+        assertEquals(new TreeSet<>(Arrays.asList(GAV_B)), byAttribution.get("Copyright (c) 2011, Pat a Mat"));
+    }
+
+    @Test
+    public void testMergeYearsIgnoresNonYearNumbers() {
+        AttributionStore store = new AttributionStore();
+        store.add(GAV_A, "Copyright Sun Microsystems, 4150 Network Circle");
+        store.add(GAV_A, "Copyright Sun Microsystems, 4190 Network Circle");
+        store.add(GAV_A, "Copyright 2006 Sun Microsystems, 4150 Network Circle");
+        store.add(GAV_A, "Copyright 2010 Sun Microsystems, 4150 Network Circle");
+
+        assertEquals(new TreeSet<>(Arrays.asList("Copyright 2006, 2010 Sun Microsystems, 4150 Network Circle",
+                "Copyright Sun Microsystems, 4150 Network Circle", "Copyright Sun Microsystems, 4190 Network Circle")),
+                store.getAttributions(GAV_A, true));
+    }
+
+    @Test
+    public void testMergeYearsKeepsSingleNotice() {
+        AttributionStore store = new AttributionStore();
+        store.add(GAV_A, "Copyright 2004, 2006, 2010 Foo Inc.");
+        store.add(GAV_A, "Copyright 1999-2003 Bar");
+
+        assertEquals(new TreeSet<>(Arrays.asList("Copyright 2004, 2006, 2010 Foo Inc.", "Copyright 1999-2003 Bar")),
+                store.getAttributions(GAV_A, true));
+    }
+
+    @Test
+    public void testMergeYearsKeepsGapsBetweenRanges() {
+        AttributionStore store = new AttributionStore();
+        store.add(GAV_A, "Copyright 1998-2001 Bar");
+        store.add(GAV_A, "Copyright 2019-2020 Bar");
+        store.add(GAV_B, "Copyright 2002 Bar");
+        store.add(GAV_B, "Copyright 2021, 2023 Bar");
+
+        assertEquals(new TreeSet<>(Arrays.asList("Copyright 1998-2001, 2019-2020 Bar")), store.getAttributions(GAV_A, true));
+        SortedMap<String, SortedSet<String>> byAttribution = store.getGavsByAttribution(true);
+        assertEquals(1, byAttribution.size());
+        assertEquals(new TreeSet<>(Arrays.asList(GAV_A, GAV_B)), byAttribution.get("Copyright 1998-2002, 2019-2021, 2023 Bar"));
+    }
+}